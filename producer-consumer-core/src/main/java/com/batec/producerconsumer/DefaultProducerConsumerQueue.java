@@ -1,6 +1,7 @@
 package com.batec.producerconsumer;
 
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 public class DefaultProducerConsumerQueue<T> extends LinkedBlockingQueue<T> implements ProducerConsumerQueue<T> {
@@ -13,7 +14,59 @@ public class DefaultProducerConsumerQueue<T> extends LinkedBlockingQueue<T> impl
         super(capacity);
     }
 
+    private static final long CLOSE_CHECK_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
     private final AtomicBoolean completed = new AtomicBoolean(false);
+    private volatile boolean closed;
+
+    @Override
+    public void put(T item) throws InterruptedException {
+        if (closed) {
+            throw new InterruptedException("Queue is closed");
+        }
+        super.put(item);
+    }
+
+    /**
+     * Retrieves and removes the head of the queue, waiting if necessary until an item becomes available.
+     * Once the queue is closed and completed, waiting consumers are released with an {@link InterruptedException}.
+     */
+    @Override
+    public T take() throws InterruptedException {
+        T item;
+        // Waits in short intervals so a close is noticed without interrupting the consumer thread
+        while ((item = super.poll(CLOSE_CHECK_INTERVAL_NANOS, TimeUnit.NANOSECONDS)) == null) {
+            if (closed && completed()) {
+                throw new InterruptedException("Queue is closed");
+            }
+        }
+        return item;
+    }
+
+    /**
+     * Retrieves and removes the head of the queue, waiting up to the given time for an item to become available.
+     * Once the queue is closed and completed, waiting consumers are released with {@code null}.
+     */
+    @Override
+    public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long remaining = unit.toNanos(timeout);
+        while (true) {
+            long wait = Math.min(remaining, CLOSE_CHECK_INTERVAL_NANOS);
+            long start = System.nanoTime();
+            T item = super.poll(wait, TimeUnit.NANOSECONDS);
+            remaining -= System.nanoTime() - start;
+            if (item != null || remaining <= 0 || (closed && completed())) {
+                return item;
+            }
+        }
+    }
+
+    /**
+     * Closes the queue: further items are rejected and consumers waiting on an empty, completed queue are released.
+     */
+    void close() {
+        this.closed = true;
+    }
 
     @Override
     public boolean completed() {
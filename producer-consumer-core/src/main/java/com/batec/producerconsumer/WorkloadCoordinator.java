@@ -6,6 +6,7 @@ import org.slf4j.LoggerFactory;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -25,8 +26,21 @@ public class WorkloadCoordinator {
      * @param <T>           The type of items being produced and consumed.
      * @param configuration The configuration for the producer-consumer process.
      * @return A CompletableFuture that completes when all producer and consumer tasks are done.
+     * Cancelling it interrupts the producers and consumers and discards the buffered items.
      */
     public static <T> CompletableFuture<Void> processWorkload(WorkloadConfiguration<T> configuration) {
+        return startWorkload(configuration).getCompletion();
+    }
+
+    /**
+     * Starts the producer and consumer tasks based on the provided configuration and returns a handle
+     * that can be used to cancel or drain the running workload.
+     *
+     * @param <T>           The type of items being produced and consumed.
+     * @param configuration The configuration for the producer-consumer process.
+     * @return A WorkloadHandle to the running producer and consumer tasks.
+     */
+    public static <T> WorkloadHandle<T> startWorkload(WorkloadConfiguration<T> configuration) {
         var producerExecutor = Executors.newFixedThreadPool(configuration.getProducerCount());
         var consumerExecutor = Executors.newFixedThreadPool(configuration.getConsumerCount());
         int producerCount = configuration.getProducerCount();
@@ -40,17 +54,34 @@ public class WorkloadCoordinator {
         }
         int bufferSize = configuration.getBufferSize();
         DefaultProducerConsumerQueue<T> queue = new DefaultProducerConsumerQueue<>(bufferSize);
-
+        WorkloadHandle<T> handle = new WorkloadHandle<>(producerExecutor, consumerExecutor, queue,
+                configuration.getProducerTerminationTimeout());
 
         List<CompletableFuture<?>> producerFutures = new ArrayList<>(producerCount);
         for (int i = 0; i < configuration.getProducerCount(); i++) {
             var producerFuture = CompletableFuture.runAsync(() -> producer.accept(queue), producerExecutor);
             producerFutures.add(producerFuture);
         }
-        // When all producers are done, complete or fail the queue accordingly
+
+        List<CompletableFuture<?>> consumerFutures = new ArrayList<>(consumerCount);
+        for (int i = 0; i < consumerCount; i++) {
+            consumerFutures.add(CompletableFuture.runAsync(() -> consumer.accept(queue), consumerExecutor));
+        }
+        // Consumers released by a stop request are not considered failed.
+        CompletableFuture<Void> allConsumersDone = CompletableFuture.allOf(consumerFutures.toArray(new CompletableFuture[0]))
+                .handle((nothing, ex) -> {
+                    if (ex != null && !(handle.isStopRequested() && isInterruption(ex))) {
+                        throw ex instanceof CompletionException completionException
+                                ? completionException : new CompletionException(ex);
+                    }
+                    return null;
+                });
+
+        // When all producers are done, complete or fail the queue accordingly.
+        // Producers interrupted by a stop request are not considered failed.
         CompletableFuture<Void> allProducersDone = CompletableFuture.allOf(producerFutures.toArray(new CompletableFuture[0]))
                 .handle((nothing, ex) -> {
-                    if (ex != null) {
+                    if (ex != null && !(handle.isStopRequested() && isInterruption(ex))) {
                         queue.fail(ex);
                     } else {
                         queue.complete();
@@ -58,14 +89,10 @@ public class WorkloadCoordinator {
                     return null;
                 });
 
-        List<CompletableFuture<?>> consumerFutures = new ArrayList<>(producerCount + consumerCount);
-        for (int i = 0; i < consumerCount; i++) {
-            consumerFutures.add(CompletableFuture.runAsync(() -> consumer.accept(queue), consumerExecutor));
-        }
-
-        return allProducersDone
-                .thenCompose(nothing -> CompletableFuture.allOf(consumerFutures.toArray(new CompletableFuture[0])))
-                .whenComplete((result, throwable) -> {
+        CompletableFuture<Void> completion = allProducersDone
+                .thenCompose(nothing -> allConsumersDone)
+                // Shut down from outside the pools so the executors can terminate without waiting for the calling thread
+                .whenCompleteAsync((result, throwable) -> {
                     shutdownExecutors(producerExecutor, consumerExecutor, configuration);
                     if (throwable != null) {
                         LOG.error("Error occurred during processing", throwable);
@@ -73,6 +100,17 @@ public class WorkloadCoordinator {
                         LOG.debug("Processing completed successfully");
                     }
                 });
+        handle.attach(allProducersDone, allConsumersDone, completion);
+        return handle;
+    }
+
+    private static boolean isInterruption(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof InterruptedException) {
+                return true;
+            }
+        }
+        return false;
     }
 
     private static <T> Consumer<ConsumerQueue<T>> defaultConsumer(Consumer<T> itemConsumer) {
@@ -93,6 +131,8 @@ public class WorkloadCoordinator {
 
     private static <T> void shutdownExecutors(ExecutorService producerExecutor, ExecutorService consumerExecutor, WorkloadConfiguration<T> configuration) {
         LOG.debug("All tasks completed. Shutting down executors.");
+        producerExecutor.shutdown();
+        consumerExecutor.shutdown();
         try {
             if (!producerExecutor.awaitTermination(
                     configuration.getProducerTerminationTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
@@ -0,0 +1,159 @@
+package com.batec.producerconsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Handle to a running workload started by {@link WorkloadCoordinator#startWorkload(WorkloadConfiguration)}.
+ * <p>
+ * Allows stopping the producers and consumers before they finish on their own, either immediately
+ * via {@link #cancel()} or after letting consumers process the buffered items via {@link #drainAndStop(Duration)}.
+ *
+ * @param <T> The type of items being produced and consumed.
+ */
+public class WorkloadHandle<T> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(WorkloadHandle.class);
+
+    private final ExecutorService producerExecutor;
+    private final ExecutorService consumerExecutor;
+    private final DefaultProducerConsumerQueue<T> queue;
+    private final Duration producerTerminationTimeout;
+    private final AtomicBoolean stopRequested = new AtomicBoolean(false);
+    private final AtomicBoolean cancelled = new AtomicBoolean(false);
+    private final AtomicBoolean draining = new AtomicBoolean(false);
+    private CompletableFuture<Void> producersDone;
+    private CompletableFuture<Void> consumersDone;
+    private CompletableFuture<Void> completion;
+
+    WorkloadHandle(ExecutorService producerExecutor, ExecutorService consumerExecutor,
+                   DefaultProducerConsumerQueue<T> queue, Duration producerTerminationTimeout) {
+        this.producerExecutor = producerExecutor;
+        this.consumerExecutor = consumerExecutor;
+        this.queue = queue;
+        this.producerTerminationTimeout = producerTerminationTimeout;
+    }
+
+    void attach(CompletableFuture<Void> producersDone, CompletableFuture<Void> consumersDone,
+                CompletableFuture<Void> completion) {
+        this.producersDone = producersDone;
+        this.consumersDone = consumersDone;
+        this.completion = completion;
+        // Cancelling the future directly behaves like cancel() on the handle
+        completion.whenComplete((result, throwable) -> {
+            if (completion.isCancelled()) {
+                cancel();
+            }
+        });
+    }
+
+    /**
+     * Returns the future that completes when all producer and consumer tasks are done.
+     * Cancelling it has the same effect as {@link #cancel()}.
+     *
+     * @return The completion future of the workload.
+     */
+    public CompletableFuture<Void> getCompletion() {
+        return completion;
+    }
+
+    /**
+     * Returns whether a stop was requested through {@link #cancel()} or {@link #drainAndStop(Duration)}.
+     *
+     * @return {@code true} if the workload is being stopped or was stopped.
+     */
+    public boolean isStopRequested() {
+        return stopRequested.get();
+    }
+
+    /**
+     * Stops the workload immediately without waiting for the tasks to finish. Producers and consumers are
+     * interrupted, the queue stops accepting items, buffered items are discarded and the completion future
+     * is cancelled.
+     *
+     * @return The number of buffered items that were discarded without being processed.
+     */
+    public int cancel() {
+        stopRequested.set(true);
+        if (!cancelled.compareAndSet(false, true)) {
+            return 0;
+        }
+        // Cancel first so consumers returning after the interrupt cannot complete the future normally
+        completion.cancel(true);
+        queue.close();
+        producerExecutor.shutdownNow();
+        consumerExecutor.shutdownNow();
+        queue.complete();
+        int discarded = discardBuffered();
+        // A put racing with the close may still land, release it once the producers are gone
+        producersDone.whenComplete((result, throwable) -> {
+            int late = discardBuffered();
+            if (late > 0) {
+                LOG.debug("Discarded {} items put while the workload was being cancelled", late);
+            }
+        });
+        LOG.debug("Workload cancelled, {} items left unprocessed", discarded);
+        return discarded;
+    }
+
+    /**
+     * Stops the producers and lets the consumers process the items already buffered in the queue.
+     * Consumers waiting for items once the queue is drained are released.
+     * If the consumers do not finish within the given timeout, the workload is cancelled as in {@link #cancel()}.
+     *
+     * @param timeout Maximum time to wait for the producers to stop and the consumers to drain the queue.
+     * @return The number of buffered items that were discarded without being processed.
+     */
+    public int drainAndStop(Duration timeout) {
+        if (cancelled.get() || !draining.compareAndSet(false, true)) {
+            return 0;
+        }
+        stopRequested.set(true);
+        long deadline = System.nanoTime() + timeout.toNanos();
+        queue.close();
+        producerExecutor.shutdownNow();
+        awaitProducers(Math.min(deadline - System.nanoTime(), producerTerminationTimeout.toNanos()));
+        queue.complete();
+        try {
+            consumersDone.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+            int left = discardBuffered();
+            LOG.debug("Workload drained and stopped, {} items left unprocessed", left);
+            return left;
+        } catch (TimeoutException e) {
+            LOG.debug("Consumers did not drain the queue within {}, cancelling", timeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // The failure reaches the caller through the completion future
+            LOG.debug("Consumer failed while draining the queue", e.getCause());
+            return discardBuffered();
+        }
+        return cancel();
+    }
+
+    private void awaitProducers(long timeoutNanos) {
+        try {
+            if (!producerExecutor.awaitTermination(Math.max(timeoutNanos, 0), TimeUnit.NANOSECONDS)) {
+                LOG.debug("Producers did not stop within the drain timeout");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private int discardBuffered() {
+        List<T> discarded = new ArrayList<>();
+        queue.drainTo(discarded);
+        return discarded.size();
+    }
+}
@@ -3,6 +3,8 @@ package com.batec.producerconsumer;
 import org.junit.jupiter.api.Test;
 
 import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -233,4 +235,458 @@ public class BasicTests {
                 }).join();
         assertThat(completed.get()).isTrue();
     }
+
+    @Test
+    void whenWorkloadIsCancelled_thenBlockedTasksAreInterrupted() throws InterruptedException {
+        CountDownLatch bufferFull = new CountDownLatch(1);
+        CountDownLatch consumersInterrupted = new CountDownLatch(2);
+        WorkloadConfiguration<Integer> config = WorkloadConfiguration.<Integer>builder()
+                .bufferSize(5)
+                .producerCount(1)
+                .consumerCount(2)
+                .producer(producerQueue -> {
+                    try {
+                        for (int i = 0; i < 5; i++) {
+                            producerQueue.put(i);
+                        }
+                        bufferFull.countDown();
+                        producerQueue.put(5); // blocks as the buffer is full
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                })
+                .queueConsumer(consumerQueue -> {
+                    try {
+                        bufferFull.await();
+                        // Never takes an item, waits until interrupted
+                        new CountDownLatch(1).await();
+                    } catch (InterruptedException e) {
+                        consumersInterrupted.countDown();
+                        Thread.currentThread().interrupt();
+                    }
+                })
+                .build();
+
+        WorkloadHandle<Integer> handle = WorkloadCoordinator.startWorkload(config);
+        assertThat(bufferFull.await(1, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(handle.cancel()).isEqualTo(5);
+        assertThat(consumersInterrupted.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(handle.getCompletion()).isCancelled();
+        // A second cancellation has nothing left to discard
+        assertThat(handle.cancel()).isZero();
+    }
+
+    @Test
+    void whenWorkloadIsDrained_thenBufferedItemsAreProcessed() throws InterruptedException {
+        AtomicInteger producedCount = new AtomicInteger(0);
+        AtomicInteger consumedCount = new AtomicInteger(0);
+        CountDownLatch started = new CountDownLatch(1);
+        WorkloadConfiguration<Integer> config = WorkloadConfiguration.<Integer>builder()
+                .bufferSize(10)
+                .producerCount(1)
+                .consumerCount(2)
+                .producer(producerQueue -> {
+                    // Produces until interrupted
+                    try {
+                        for (int i = 0; ; i++) {
+                            producerQueue.put(i);
+                            producedCount.incrementAndGet();
+                            started.countDown();
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                })
+                .queueConsumer(consumerTask(consumedCount))
+                .build();
+
+        WorkloadHandle<Integer> handle = WorkloadCoordinator.startWorkload(config);
+        assertThat(started.await(1, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(handle.drainAndStop(Duration.ofSeconds(5))).isZero();
+        handle.getCompletion().join();
+        assertThat(consumedCount.get()).isEqualTo(producedCount.get());
+    }
+
+    @Test
+    void whenDrainTimesOut_thenRemainingItemsAreReported() throws InterruptedException {
+        CountDownLatch bufferFull = new CountDownLatch(1);
+        WorkloadConfiguration<Integer> config = WorkloadConfiguration.<Integer>builder()
+                .bufferSize(3)
+                .producerCount(1)
+                .consumerCount(1)
+                .producer(producerQueue -> {
+                    try {
+                        for (int i = 0; i < 3; i++) {
+                            producerQueue.put(i);
+                        }
+                        bufferFull.countDown();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                })
+                .queueConsumer(consumerQueue -> {
+                    try {
+                        // Too slow to drain the queue in time
+                        new CountDownLatch(1).await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                })
+                .build();
+
+        WorkloadHandle<Integer> handle = WorkloadCoordinator.startWorkload(config);
+        assertThat(bufferFull.await(1, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(handle.drainAndStop(Duration.ofMillis(50))).isEqualTo(3);
+        assertThat(handle.getCompletion()).isCancelled();
+    }
+
+    @Test
+    void whenFutureIsCancelled_thenWorkloadIsStopped() throws InterruptedException {
+        AtomicInteger producedCount = new AtomicInteger(0);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch producerStopped = new CountDownLatch(1);
+        CountDownLatch consumerStopped = new CountDownLatch(1);
+        WorkloadConfiguration<Integer> config = WorkloadConfiguration.<Integer>builder()
+                .bufferSize(10)
+                .producerCount(1)
+                .consumerCount(1)
+                .producer(producerQueue -> {
+                    // Produces until stopped
+                    try {
+                        for (int i = 0; ; i++) {
+                            producerQueue.put(i);
+                            producedCount.incrementAndGet();
+                            started.countDown();
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        producerStopped.countDown();
+                    }
+                })
+                .queueConsumer(consumerQueue -> {
+                    consumerTask(new AtomicInteger(0)).accept(consumerQueue);
+                    consumerStopped.countDown();
+                })
+                .build();
+
+        CompletableFuture<Void> future = WorkloadCoordinator.processWorkload(config);
+        assertThat(started.await(1, TimeUnit.SECONDS)).isTrue();
+        future.cancel(true);
+
+        assertThat(producerStopped.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(consumerStopped.await(1, TimeUnit.SECONDS)).isTrue();
+        int produced = producedCount.get();
+        Thread.sleep(50);
+        assertThat(producedCount.get()).isEqualTo(produced);
+        assertThat(future).isCancelled();
+    }
+
+    @Test
+    void whenWorkloadIsCancelled_thenCompletionIsAlwaysCancelled() throws InterruptedException {
+        for (int run = 0; run < 50; run++) {
+            CountDownLatch started = new CountDownLatch(1);
+            WorkloadConfiguration<Integer> config = WorkloadConfiguration.<Integer>builder()
+                    .bufferSize(3)
+                    .producerCount(1)
+                    .consumerCount(2)
+                    .producer(producerQueue -> {
+                        try {
+                            producerQueue.put(0);
+                            started.countDown();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    })
+                    .queueConsumer(consumerQueue -> {
+                        try {
+                            // Returns normally as soon as it is interrupted
+                            new CountDownLatch(1).await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    })
+                    .build();
+
+            WorkloadHandle<Integer> handle = WorkloadCoordinator.startWorkload(config);
+            assertThat(started.await(1, TimeUnit.SECONDS)).isTrue();
+
+            assertThat(handle.cancel()).isEqualTo(1);
+            assertThat(handle.getCompletion()).isCancelled();
+        }
+    }
+
+    @Test
+    void whenWorkloadIsDrained_thenConsumersBlockedInTakeAreWoken() throws InterruptedException {
+        AtomicInteger producedCount = new AtomicInteger(0);
+        AtomicInteger consumedCount = new AtomicInteger(0);
+        CountDownLatch started = new CountDownLatch(1);
+        WorkloadConfiguration<Integer> config = WorkloadConfiguration.<Integer>builder()
+                .bufferSize(10)
+                .producerCount(1)
+                .consumerCount(3)
+                .producer(producerQueue -> {
+                    try {
+                        for (int i = 0; i < 5; i++) {
+                            producerQueue.put(i);
+                            producedCount.incrementAndGet();
+                        }
+                        started.countDown();
+                        new CountDownLatch(1).await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                })
+                .queueConsumer(consumerQueue -> {
+                    while (!consumerQueue.completed()) {
+                        try {
+                            consumerQueue.take();
+                            consumedCount.incrementAndGet();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                    }
+                })
+                .build();
+
+        WorkloadHandle<Integer> handle = WorkloadCoordinator.startWorkload(config);
+        assertThat(started.await(1, TimeUnit.SECONDS)).isTrue();
+
+        long start = System.nanoTime();
+        assertThat(handle.drainAndStop(Duration.ofSeconds(5))).isZero();
+        assertThat(Duration.ofNanos(System.nanoTime() - start).toMillis()).isLessThan(1000);
+        handle.getCompletion().join();
+        assertThat(consumedCount.get()).isEqualTo(producedCount.get());
+    }
+
+    @Test
+    void whenProducerPutsAfterCancel_thenItemIsRejected() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch rejected = new CountDownLatch(1);
+        WorkloadConfiguration<Integer> config = WorkloadConfiguration.<Integer>builder()
+                .bufferSize(10)
+                .producerCount(1)
+                .consumerCount(1)
+                .producer(producerQueue -> {
+                    try {
+                        for (int i = 0; i < 5; i++) {
+                            producerQueue.put(i);
+                        }
+                        started.countDown();
+                        new CountDownLatch(1).await();
+                    } catch (InterruptedException e) {
+                        // Swallows the interrupt and keeps producing
+                        try {
+                            Thread.sleep(20);
+                        } catch (InterruptedException ignored) {
+                            // not expected
+                        }
+                        try {
+                            producerQueue.put(5);
+                        } catch (InterruptedException closed) {
+                            rejected.countDown();
+                        }
+                    }
+                })
+                .queueConsumer(consumerQueue -> {
+                    try {
+                        new CountDownLatch(1).await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                })
+                .build();
+
+        WorkloadHandle<Integer> handle = WorkloadCoordinator.startWorkload(config);
+        assertThat(started.await(1, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(handle.cancel()).isEqualTo(5);
+        assertThat(rejected.await(1, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void whenWorkloadIsDrained_thenConsumersBlockedInPollAreWoken() throws InterruptedException {
+        AtomicInteger producedCount = new AtomicInteger(0);
+        AtomicInteger consumedCount = new AtomicInteger(0);
+        CountDownLatch started = new CountDownLatch(1);
+        WorkloadConfiguration<Integer> config = WorkloadConfiguration.<Integer>builder()
+                .bufferSize(10)
+                .producerCount(1)
+                .consumerCount(3)
+                .producer(producerQueue -> {
+                    try {
+                        for (int i = 0; i < 5; i++) {
+                            producerQueue.put(i);
+                            producedCount.incrementAndGet();
+                        }
+                        started.countDown();
+                        new CountDownLatch(1).await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                })
+                .queueConsumer(consumerQueue -> {
+                    while (!consumerQueue.completed()) {
+                        try {
+                            if (consumerQueue.poll(1, TimeUnit.MINUTES) != null) {
+                                consumedCount.incrementAndGet();
+                            }
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                    }
+                })
+                .build();
+
+        WorkloadHandle<Integer> handle = WorkloadCoordinator.startWorkload(config);
+        assertThat(started.await(1, TimeUnit.SECONDS)).isTrue();
+
+        long start = System.nanoTime();
+        assertThat(handle.drainAndStop(Duration.ofSeconds(5))).isZero();
+        assertThat(Duration.ofNanos(System.nanoTime() - start).toMillis()).isLessThan(1000);
+        handle.getCompletion().join();
+        assertThat(consumedCount.get()).isEqualTo(producedCount.get());
+    }
+
+    @Test
+    void whenConsumerRethrowsOnDrain_thenWorkloadCompletesNormally() throws InterruptedException {
+        AtomicInteger consumedCount = new AtomicInteger(0);
+        CountDownLatch started = new CountDownLatch(1);
+        WorkloadConfiguration<Integer> config = WorkloadConfiguration.<Integer>builder()
+                .bufferSize(10)
+                .producerCount(1)
+                .consumerCount(2)
+                .producer(producerQueue -> {
+                    try {
+                        for (int i = 0; i < 5; i++) {
+                            producerQueue.put(i);
+                        }
+                        started.countDown();
+                        new CountDownLatch(1).await();
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                })
+                .queueConsumer(consumerQueue -> {
+                    while (!consumerQueue.completed()) {
+                        try {
+                            consumerQueue.take();
+                            consumedCount.incrementAndGet();
+                        } catch (InterruptedException e) {
+                            throw new RuntimeException(e);
+                        }
+                    }
+                })
+                .build();
+
+        WorkloadHandle<Integer> handle = WorkloadCoordinator.startWorkload(config);
+        assertThat(started.await(1, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(handle.drainAndStop(Duration.ofSeconds(5))).isZero();
+        handle.getCompletion().join();
+        assertThat(handle.getCompletion().isCancelled()).isEqualTo(false);
+        assertThat(consumedCount.get()).isEqualTo(5);
+    }
+
+    @Test
+    void whenConsumersStopEarly_thenDrainReportsBufferedItems() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        WorkloadConfiguration<Integer> config = WorkloadConfiguration.<Integer>builder()
+                .bufferSize(10)
+                .producerCount(1)
+                .consumerCount(1)
+                .producer(producerQueue -> {
+                    try {
+                        for (int i = 0; i < 5; i++) {
+                            producerQueue.put(i);
+                        }
+                        started.countDown();
+                        new CountDownLatch(1).await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                })
+                .queueConsumer(consumerQueue -> {
+                    // Handles a single item and stops on its own
+                    try {
+                        consumerQueue.take();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                })
+                .build();
+
+        WorkloadHandle<Integer> handle = WorkloadCoordinator.startWorkload(config);
+        assertThat(started.await(1, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(handle.drainAndStop(Duration.ofSeconds(1))).isEqualTo(4);
+        handle.getCompletion().join();
+    }
+
+    @Test
+    void whenProducerIgnoresInterrupts_thenDrainTimeoutIsHonored() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        WorkloadConfiguration<Integer> config = WorkloadConfiguration.<Integer>builder()
+                .bufferSize(10)
+                .producerCount(1)
+                .consumerCount(1)
+                .producerTerminationTimeout(Duration.ofSeconds(2))
+                .producer(stubbornProducer(started))
+                .queueConsumer(consumerTask(new AtomicInteger(0)))
+                .build();
+
+        WorkloadHandle<Integer> handle = WorkloadCoordinator.startWorkload(config);
+        assertThat(started.await(1, TimeUnit.SECONDS)).isTrue();
+
+        long start = System.nanoTime();
+        handle.drainAndStop(Duration.ofMillis(50));
+        assertThat(Duration.ofNanos(System.nanoTime() - start).toMillis()).isLessThan(500);
+    }
+
+    @Test
+    void whenProducerIgnoresInterrupts_thenFutureCancelReturnsImmediately() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        WorkloadConfiguration<Integer> config = WorkloadConfiguration.<Integer>builder()
+                .bufferSize(10)
+                .producerCount(1)
+                .consumerCount(1)
+                .producerTerminationTimeout(Duration.ofSeconds(2))
+                .producer(stubbornProducer(started))
+                .queueConsumer(consumerTask(new AtomicInteger(0)))
+                .build();
+
+        CompletableFuture<Void> future = WorkloadCoordinator.processWorkload(config);
+        assertThat(started.await(1, TimeUnit.SECONDS)).isTrue();
+
+        long start = System.nanoTime();
+        future.cancel(true);
+        assertThat(Duration.ofNanos(System.nanoTime() - start).toMillis()).isLessThan(100);
+        assertThat(future).isCancelled();
+    }
+
+    private static Consumer<ProducerQueue<Integer>> stubbornProducer(CountDownLatch started) {
+        return producerQueue -> {
+            try {
+                producerQueue.put(0);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            started.countDown();
+            // Keeps running for a second whatever happens
+            long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+            while (System.nanoTime() < end) {
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException ignored) {
+                    // ignored on purpose
+                }
+            }
+        };
+    }
 }